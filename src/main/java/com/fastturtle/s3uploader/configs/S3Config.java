@@ -1,5 +1,6 @@
 package com.fastturtle.s3uploader.configs;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
@@ -10,9 +11,9 @@ import software.amazon.awssdk.services.s3.S3Client;
 public class S3Config {
 
     @Bean
-    public S3Client s3Client() {
+    public S3Client s3Client(@Value("${s3.region:ap-northeast-1}") String region) {
         return S3Client.builder()
-                .region(Region.AP_NORTHEAST_1)
+                .region(Region.of(region))
                 .credentialsProvider(DefaultCredentialsProvider.create())
                 .build();
     }
@@ -1,5 +1,6 @@
 package com.fastturtle.s3uploader.controllers;
 
+import com.fastturtle.s3uploader.services.S3KeyLayoutService;
 import com.fastturtle.s3uploader.services.S3MultipartUploadService;
 import com.fastturtle.s3uploader.utils.FileRequest;
 import com.fastturtle.s3uploader.services.S3Service;
@@ -18,9 +19,12 @@ public class S3Controller {
 
     private final S3MultipartUploadService s3MultipartUpload;
 
-    public S3Controller(S3Service s3Service, S3MultipartUploadService s3MultipartUploadService) {
+    private final S3KeyLayoutService s3KeyLayoutService;
+
+    public S3Controller(S3Service s3Service, S3MultipartUploadService s3MultipartUploadService, S3KeyLayoutService s3KeyLayoutService) {
         this.s3Service = s3Service;
         this.s3MultipartUpload = s3MultipartUploadService;
+        this.s3KeyLayoutService = s3KeyLayoutService;
     }
 
     @PostMapping("/upload")
@@ -35,22 +39,22 @@ public class S3Controller {
             throw new RuntimeException(e);
         }
 
-        String bucketName = "bucket-for-expenses-csv";
         String fileUrl;
 
         if(multipartFile.getSize() <= 1024 * 1024) {
-            fileUrl = s3Service.uploadFile(bucketName, fileName, tempFile);
+            fileUrl = s3Service.uploadFile(fileName, tempFile);
         } else {
-            fileUrl = s3MultipartUpload.multipartUpload(bucketName, fileName, tempFile);
+            fileUrl = s3MultipartUpload.multipartUpload(fileName, tempFile);
         }
-        return Map.of("fileUrl", fileUrl);
+        // Clients keep the key to delete the object later, "/delete" accepts it as fileName
+        String fileKey = s3KeyLayoutService.resolve(fileName).getKey();
+
+        return Map.of("fileUrl", fileUrl, "fileKey", fileKey);
     }
 
     @PostMapping("/delete")
     public Map<String, Boolean> deleteFile(@RequestBody FileRequest fileRequest) {
-        String bucketName = "bucket-for-expenses-csv";
-
-        boolean fileDeletionResponse = s3Service.deleteFile(bucketName, fileRequest.getFileName());
+        boolean fileDeletionResponse = s3Service.deleteFile(fileRequest.getFileName());
 
         return Map.of("fileDeletionStatus", fileDeletionResponse);
     }
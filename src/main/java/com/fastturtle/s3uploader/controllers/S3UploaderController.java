@@ -43,14 +43,12 @@ public class S3UploaderController {
             throw new RuntimeException(e);
         }
 
-        String bucketName = "bucket-for-expenses-csv";
-
         String uploadFileUrl;
 
         if(multipartFile.getSize() <= 5 * 1024 * 1024) {
-            uploadFileUrl = s3Service.uploadFile(bucketName, fileName, tempFile);
+            uploadFileUrl = s3Service.uploadFile(fileName, tempFile);
         } else {
-            uploadFileUrl = s3MultipartUploadService.multipartUpload(bucketName, fileName, tempFile);
+            uploadFileUrl = s3MultipartUploadService.multipartUpload(fileName, tempFile);
         }
 
         String fileType = null;
@@ -0,0 +1,184 @@
+package com.fastturtle.s3uploader.services;
+
+import com.fastturtle.s3uploader.utils.S3ObjectLocation;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Decides where an uploaded file lives. The key is "<category>/<shard>/<fileName>", where the shard
+// is derived from a hash of the file name, so writes are spread over several prefixes instead of
+// hitting the per-prefix request limit of a single "images/" or "videos/" prefix. When more than one
+// bucket is configured, the same hash also picks the bucket.
+//
+// The location is computed from the file name and the current s3.layout.* settings only, there is no
+// lookup table. Changing the shard count moves every computed key, so it must not be changed once
+// objects exist. Delete still tries the computed key in every configured bucket, so adding or
+// reordering buckets keeps existing objects deletable, and clients can always delete by the full key
+// returned at upload time.
+@Service
+public class S3KeyLayoutService {
+
+    private final S3Client defaultS3Client;
+
+    private final List<String> bucketNames = new ArrayList<>();
+
+    private final List<Region> bucketRegions = new ArrayList<>();
+
+    private final int shardCount;
+
+    private final int shardWidth;
+
+    private final ConcurrentMap<Region, S3Client> s3Clients = new ConcurrentHashMap<>();
+
+    public S3KeyLayoutService(S3Client s3Client,
+                              @Value("${s3.region:ap-northeast-1}") String defaultRegion,
+                              @Value("${s3.layout.buckets:bucket-for-expenses-csv}") List<String> buckets,
+                              @Value("${s3.layout.shard-count:1}") int shardCount) {
+        if (buckets.isEmpty()) {
+            throw new IllegalArgumentException("At least one bucket must be configured in s3.layout.buckets");
+        }
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("s3.layout.shard-count must be at least 1, was " + shardCount);
+        }
+
+        Region region = Region.of(defaultRegion);
+
+        // Entries are either "bucket" or "bucket:region"
+        for (String entry : buckets) {
+            String[] parts = entry.trim().split(":", 2);
+            bucketNames.add(parts[0].trim());
+            bucketRegions.add(parts.length > 1 ? Region.of(parts[1].trim()) : region);
+        }
+
+        this.shardCount = shardCount;
+        this.shardWidth = Integer.toHexString(Math.max(shardCount - 1, 1)).length();
+        this.defaultS3Client = s3Client;
+        this.s3Clients.put(region, s3Client);
+    }
+
+    public S3ObjectLocation resolve(String fileName) {
+        long hash = hash(fileName);
+
+        int bucket = (int) ((hash / shardCount) % bucketNames.size());
+
+        return new S3ObjectLocation(bucketNames.get(bucket), keyFor(fileName, hash), bucketRegions.get(bucket));
+    }
+
+    // Every location a delete request may refer to. A value containing "/" is a full object key, as
+    // returned by the upload API, and is looked up as-is. A bare file name is looked up under its
+    // computed key, then under the keys used before sharding was introduced.
+    public List<S3ObjectLocation> resolveAll(String fileNameOrKey) {
+        Set<S3ObjectLocation> locations = new LinkedHashSet<>();
+
+        if (fileNameOrKey.contains("/")) {
+            locations.addAll(inEveryBucket(fileNameOrKey));
+        } else {
+            S3ObjectLocation resolved = resolve(fileNameOrKey);
+            locations.add(resolved);
+            locations.addAll(inEveryBucket(resolved.getKey()));
+            locations.addAll(resolveLegacy(fileNameOrKey));
+        }
+
+        return new ArrayList<>(locations);
+    }
+
+    // Keys used before sharding was introduced, all in the first bucket. The multipart upload already
+    // had the videos/ and musics/ prefixes, while the single-part upload sent those files to misc/.
+    public List<S3ObjectLocation> resolveLegacy(String fileName) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(categoryOf(fileName) + "/" + fileName);
+        keys.add(singlePartCategoryOf(fileName) + "/" + fileName);
+
+        List<S3ObjectLocation> locations = new ArrayList<>();
+        for (String key : keys) {
+            locations.add(new S3ObjectLocation(bucketNames.get(0), key, bucketRegions.get(0)));
+        }
+        return locations;
+    }
+
+    public S3Client s3ClientFor(Region region) {
+        return s3Clients.computeIfAbsent(region, r -> S3Client.builder()
+                .region(r)
+                .credentialsProvider(DefaultCredentialsProvider.create())
+                .build());
+    }
+
+    // The injected client is a bean and is closed by Spring, the per-region ones are ours
+    @PreDestroy
+    public void closeClients() {
+        for (S3Client s3Client : s3Clients.values()) {
+            if (s3Client != defaultS3Client) {
+                s3Client.close();
+            }
+        }
+        s3Clients.clear();
+    }
+
+    private List<S3ObjectLocation> inEveryBucket(String key) {
+        List<S3ObjectLocation> locations = new ArrayList<>();
+        for (int i = 0; i < bucketNames.size(); i++) {
+            locations.add(new S3ObjectLocation(bucketNames.get(i), key, bucketRegions.get(i)));
+        }
+        return locations;
+    }
+
+    private String keyFor(String fileName, long hash) {
+        if (shardCount == 1) {
+            return categoryOf(fileName) + "/" + fileName;
+        }
+        int shard = (int) (hash % shardCount);
+        return categoryOf(fileName) + "/" + String.format("%0" + shardWidth + "x", shard) + "/" + fileName;
+    }
+
+    private String categoryOf(String fileName) {
+        if (fileName.endsWith(".mp4") || fileName.endsWith(".avi") || fileName.endsWith(".m4a") || fileName.endsWith(".mkv")) {
+            return "videos";
+        } else if (fileName.endsWith(".mp3") || fileName.endsWith(".wav") || fileName.endsWith(".ogg")) {
+            return "musics";
+        } else {
+            return singlePartCategoryOf(fileName);
+        }
+    }
+
+    // Category mapping of the original single-part upload, which had no videos/ or musics/ prefix
+    private String singlePartCategoryOf(String fileName) {
+        if (fileName.endsWith(".csv") || fileName.endsWith(".xlsx")) {
+            return "spreadsheets";
+        } else if (fileName.endsWith(".jpg") || fileName.endsWith(".jpeg") || fileName.endsWith(".png")) {
+            return "images";
+        } else if (fileName.endsWith(".pdf")) {
+            return "pdfs";
+        } else if (fileName.endsWith(".gif")) {
+            return "gifs";
+        } else {
+            return "misc";
+        }
+    }
+
+    // MD5 spreads similar names (photo1.png, photo2.png, ...) evenly, which String.hashCode() does not
+    private long hash(String fileName) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(fileName.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < 4; i++) {
+                hash = (hash << 8) | (digest[i] & 0xff);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("MD5 not available :", e);
+        }
+    }
+}
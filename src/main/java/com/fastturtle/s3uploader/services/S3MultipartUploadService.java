@@ -1,6 +1,7 @@
 package com.fastturtle.s3uploader.services;
 
 import com.fastturtle.s3uploader.utils.ProgressTrackingInputStream;
+import com.fastturtle.s3uploader.utils.S3ObjectLocation;
 import com.fastturtle.s3uploader.utils.S3UrlGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,7 +9,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 
@@ -24,7 +24,7 @@ public class S3MultipartUploadService {
 
     private static final long PART_SIZE = 5 * 1024 * 1024;
 
-    private final S3Client s3Client;
+    private final S3KeyLayoutService s3KeyLayoutService;
 
     private final ConcurrentMap<Integer, CompletedPart> completedParts;
 
@@ -37,13 +37,13 @@ public class S3MultipartUploadService {
     // Utilising multithreading to upload multiple parts concurrently
     private ExecutorService executor;
 
-    public S3MultipartUploadService(S3Client s3Client) {
-        this.s3Client = s3Client;
+    public S3MultipartUploadService(S3KeyLayoutService s3KeyLayoutService) {
+        this.s3KeyLayoutService = s3KeyLayoutService;
         completedParts = new ConcurrentHashMap<>();
 //        this.scheduler = Executors.newScheduledThreadPool(1);
     }
 
-    public String multipartUpload(String bucketName, String fileName, File file) {
+    public String multipartUpload(String fileName, File file) {
 
         executor = new ThreadPoolExecutor(
                 4,
@@ -56,23 +56,10 @@ public class S3MultipartUploadService {
 
 //        startMonitoring();
 
-        String originalFileName = fileName;
-
-        if (fileName.endsWith(".csv") || fileName.endsWith(".xlsx")) {
-            fileName = "spreadsheets/" + fileName;
-        } else if (fileName.endsWith(".jpg") || fileName.endsWith(".jpeg") || fileName.endsWith(".png")) {
-            fileName = "images/" + fileName;
-        } else if (fileName.endsWith(".pdf")) {
-            fileName = "pdfs/" + fileName;
-        } else if (fileName.endsWith(".gif")) {
-            fileName = "gifs/" + fileName;
-        } else if(fileName.endsWith(".mp4") || fileName.endsWith(".avi") || fileName.endsWith(".m4a") || fileName.endsWith(".mkv")) {
-            fileName = "videos/" + fileName;
-        } else if(fileName.endsWith(".mp3") || fileName.endsWith(".wav") || fileName.endsWith(".ogg")) {
-            fileName = "musics/" + fileName;
-        } else {
-            fileName = "misc/" + fileName;
-        }
+        S3ObjectLocation location = s3KeyLayoutService.resolve(fileName);
+        S3Client s3Client = s3KeyLayoutService.s3ClientFor(location.getRegion());
+        String bucketName = location.getBucketName();
+        String objectKey = location.getKey();
 
         String mimeType;
         try {
@@ -86,7 +73,7 @@ public class S3MultipartUploadService {
 
         CreateMultipartUploadRequest createMultipartUploadRequest = CreateMultipartUploadRequest.builder()
                 .bucket(bucketName)
-                .key(fileName)
+                .key(objectKey)
                 .contentType(mimeType)
                 .contentDisposition("inline")
                 .build();
@@ -110,7 +97,6 @@ public class S3MultipartUploadService {
 
                 final int currentPartNumber = partNumber++;
 
-                String finalFileName = fileName;
                 int finalBytesRead = bytesRead;
                 futures.add(executor.submit(() -> {
 
@@ -118,11 +104,11 @@ public class S3MultipartUploadService {
                             new ByteArrayInputStream(partBytes),
                             currentPartNumber,
                             partSizes.get(currentPartNumber),
-                            sseEmitters.get(originalFileName)
+                            sseEmitters.get(fileName)
                     );
                     UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
                             .bucket(bucketName)
-                            .key(finalFileName)
+                            .key(objectKey)
                             .uploadId(uploadId)
                             .partNumber(currentPartNumber)
                             .contentLength((long) finalBytesRead)
@@ -146,7 +132,7 @@ public class S3MultipartUploadService {
 
             }
         } catch (IOException e) {
-            abortMultipartUpload(bucketName, fileName, uploadId);
+            abortMultipartUpload(s3Client, bucketName, objectKey, uploadId);
             throw new RuntimeException("Multipart upload failed: ", e);
         }
 
@@ -165,7 +151,7 @@ public class S3MultipartUploadService {
 
             CompleteMultipartUploadRequest completeMultipartUploadRequest = CompleteMultipartUploadRequest.builder()
                     .bucket(bucketName)
-                    .key(fileName)
+                    .key(objectKey)
                     .uploadId(uploadId)
                     .multipartUpload(completedMultipartUpload)
                     .build();
@@ -179,9 +165,9 @@ public class S3MultipartUploadService {
 
             S3UrlGenerator s3UrlGenerator = new S3UrlGenerator();
 
-            presignedUrl = s3UrlGenerator.generatePreSignedUrl(bucketName, fileName, Region.AP_NORTHEAST_1);
+            presignedUrl = s3UrlGenerator.generatePreSignedUrl(bucketName, objectKey, location.getRegion());
 
-            logger.info("Multipart upload successful: {}",  fileName);
+            logger.info("Multipart upload successful: {}",  objectKey);
         } catch (AsyncRequestTimeoutException aex) {
             throw new RuntimeException(aex);
         }
@@ -217,7 +203,7 @@ public class S3MultipartUploadService {
     }
 
     // Helper methods
-    private String initializeMultipartUpload(String bucketName, String fileName) {
+    private String initializeMultipartUpload(S3Client s3Client, String bucketName, String fileName) {
         CreateMultipartUploadRequest request = CreateMultipartUploadRequest.builder()
                 .bucket(bucketName)
                 .key(fileName)
@@ -225,7 +211,7 @@ public class S3MultipartUploadService {
         return s3Client.createMultipartUpload(request).uploadId();
     }
 
-    private void abortMultipartUpload(String bucketName, String fileName, String uploadId) {
+    private void abortMultipartUpload(S3Client s3Client, String bucketName, String fileName, String uploadId) {
         AbortMultipartUploadRequest request = AbortMultipartUploadRequest.builder()
                 .bucket(bucketName)
                 .key(fileName)
@@ -1,9 +1,9 @@
 package com.fastturtle.s3uploader.services;
 
+import com.fastturtle.s3uploader.utils.S3ObjectLocation;
 import com.fastturtle.s3uploader.utils.S3UrlGenerator;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 
@@ -16,13 +16,13 @@ import java.nio.file.Paths;
 @Service
 public class S3Service {
 
-    private final S3Client s3Client;
+    private final S3KeyLayoutService s3KeyLayoutService;
 
-    public S3Service(S3Client s3Client) {
-        this.s3Client = s3Client;
+    public S3Service(S3KeyLayoutService s3KeyLayoutService) {
+        this.s3KeyLayoutService = s3KeyLayoutService;
     }
 
-    public String uploadFile(String bucketName, String fileName, File file) {
+    public String uploadFile(String fileName, File file) {
         String mimeType;
         try {
             mimeType = Files.probeContentType(Paths.get(fileName));
@@ -33,58 +33,60 @@ public class S3Service {
             mimeType = "application/octet-stream"; // Fallback for unknown file types
         }
 
-        if(fileName.endsWith(".csv") || fileName.endsWith(".xlsx")) {
-            fileName = "spreadsheets/" + fileName;
-        } else if(fileName.endsWith(".jpg") || fileName.endsWith(".jpeg") || fileName.endsWith(".png")) {
-            fileName = "images/" + fileName;
-        } else if(fileName.endsWith(".pdf")) {
-           fileName = "pdfs/" + fileName;
-        } else if(fileName.endsWith(".gif")) {
-            fileName = "gifs/" + fileName;
-        } else {
-            fileName = "misc/" + fileName;
-        }
+        S3ObjectLocation location = s3KeyLayoutService.resolve(fileName);
 
         PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(fileName)
+                .bucket(location.getBucketName())
+                .key(location.getKey())
                 .contentType(mimeType) // Set the determined MIME type
                 .contentDisposition("inline") // Ensure the browser attempts to render
                 .build();
 
-        s3Client.putObject(putObjectRequest, RequestBody.fromFile(file));
+        s3KeyLayoutService.s3ClientFor(location.getRegion()).putObject(putObjectRequest, RequestBody.fromFile(file));
 
         S3UrlGenerator s3UrlGenerator = new S3UrlGenerator();
 
-        URL presignedUrl = s3UrlGenerator.generatePreSignedUrl(bucketName, fileName, Region.AP_NORTHEAST_1);
+        URL presignedUrl = s3UrlGenerator.generatePreSignedUrl(location.getBucketName(), location.getKey(), location.getRegion());
 
         return presignedUrl.toString();
     }
 
-    public boolean deleteFile(String bucketName, String fileName) {
-        ListObjectVersionsRequest listRequest = ListObjectVersionsRequest.builder()
-                .bucket(bucketName)
-                .prefix(fileName)
-                .build();
-
-        ListObjectVersionsResponse listResponse = s3Client.listObjectVersions(listRequest);
+    // Accepts either the full object key returned by the upload API or the bare file name. Returns
+    // false when a delete fails or when no version of the object was found in any candidate location.
+    public boolean deleteFile(String fileNameOrKey) {
+        boolean found = false;
 
-        for(ObjectVersion version : listResponse.versions()) {
-            String versionId = version.versionId();
+        for(S3ObjectLocation location : s3KeyLayoutService.resolveAll(fileNameOrKey)) {
+            S3Client s3Client = s3KeyLayoutService.s3ClientFor(location.getRegion());
 
-            DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(fileName)
-                    .versionId(versionId)
+            ListObjectVersionsRequest listRequest = ListObjectVersionsRequest.builder()
+                    .bucket(location.getBucketName())
+                    .prefix(location.getKey())
                     .build();
 
-            try {
-                s3Client.deleteObject(deleteObjectRequest);
-            } catch(Exception ex) {
-                return false;
+            ListObjectVersionsResponse listResponse = s3Client.listObjectVersions(listRequest);
+
+            for(ObjectVersion version : listResponse.versions()) {
+                // The prefix also matches longer keys such as "photo.png.bak"
+                if(!version.key().equals(location.getKey())) {
+                    continue;
+                }
+                found = true;
+
+                DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
+                        .bucket(location.getBucketName())
+                        .key(location.getKey())
+                        .versionId(version.versionId())
+                        .build();
+
+                try {
+                    s3Client.deleteObject(deleteObjectRequest);
+                } catch(Exception ex) {
+                    return false;
+                }
             }
         }
 
-        return true;
+        return found;
     }
 }
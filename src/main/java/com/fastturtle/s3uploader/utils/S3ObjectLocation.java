@@ -0,0 +1,43 @@
+package com.fastturtle.s3uploader.utils;
+
+import software.amazon.awssdk.regions.Region;
+
+public class S3ObjectLocation {
+
+    private final String bucketName;
+    private final String key;
+    private final Region region;
+
+    public S3ObjectLocation(String bucketName, String key, Region region) {
+        this.bucketName = bucketName;
+        this.key = key;
+        this.region = region;
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Region getRegion() {
+        return region;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof S3ObjectLocation other)) return false;
+        return bucketName.equals(other.bucketName) && key.equals(other.key) && region.equals(other.region);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = bucketName.hashCode();
+        result = 31 * result + key.hashCode();
+        result = 31 * result + region.hashCode();
+        return result;
+    }
+}
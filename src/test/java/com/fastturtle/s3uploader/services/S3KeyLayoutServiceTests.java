@@ -0,0 +1,119 @@
+package com.fastturtle.s3uploader.services;
+
+import com.fastturtle.s3uploader.utils.S3ObjectLocation;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class S3KeyLayoutServiceTests {
+
+    private final S3Client s3Client = mock(S3Client.class);
+
+    private S3KeyLayoutService layout(int shardCount, String... buckets) {
+        return new S3KeyLayoutService(s3Client, "ap-northeast-1", List.of(buckets), shardCount);
+    }
+
+    @Test
+    void resolveIsDeterministic() {
+        S3KeyLayoutService layout = layout(16, "bucket-a", "bucket-b");
+
+        assertEquals(layout.resolve("photo.png"), layout.resolve("photo.png"));
+        assertEquals(layout.resolve("photo.png"), layout(16, "bucket-a", "bucket-b").resolve("photo.png"));
+    }
+
+    @Test
+    void keyContainsCategoryAndHexShard() {
+        assertTrue(layout(16, "bucket").resolve("photo.png").getKey().matches("images/[0-9a-f]/photo\\.png"));
+        assertTrue(layout(17, "bucket").resolve("photo.png").getKey().matches("images/[0-9a-f]{2}/photo\\.png"));
+        assertTrue(layout(256, "bucket").resolve("movie.mp4").getKey().matches("videos/[0-9a-f]{2}/movie\\.mp4"));
+        assertTrue(layout(4096, "bucket").resolve("song.mp3").getKey().matches("musics/[0-9a-f]{3}/song\\.mp3"));
+    }
+
+    @Test
+    void singleShardKeepsPlainLayout() {
+        S3ObjectLocation location = layout(1, "bucket").resolve("report.csv");
+
+        assertEquals("bucket", location.getBucketName());
+        assertEquals("spreadsheets/report.csv", location.getKey());
+        assertEquals(Region.AP_NORTHEAST_1, location.getRegion());
+    }
+
+    @Test
+    void bucketRegionIsParsed() {
+        S3KeyLayoutService layout = new S3KeyLayoutService(s3Client, "us-east-1", List.of("bucket-a:eu-west-1", " bucket-b "), 1);
+
+        List<S3ObjectLocation> locations = layout.resolveAll("images/photo.png");
+
+        assertEquals(2, locations.size());
+        assertEquals("bucket-a", locations.get(0).getBucketName());
+        assertEquals(Region.EU_WEST_1, locations.get(0).getRegion());
+        assertEquals("bucket-b", locations.get(1).getBucketName());
+        assertEquals(Region.US_EAST_1, locations.get(1).getRegion());
+    }
+
+    @Test
+    void invalidConfigurationIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> layout(0, "bucket"));
+        assertThrows(IllegalArgumentException.class, () -> layout(16));
+    }
+
+    @Test
+    void bucketsAreSpreadAcrossFiles() {
+        S3KeyLayoutService layout = layout(16, "bucket-a", "bucket-b", "bucket-c");
+
+        Set<String> usedBuckets = new HashSet<>();
+        Set<String> usedShards = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            S3ObjectLocation location = layout.resolve("photo" + i + ".png");
+            usedBuckets.add(location.getBucketName());
+            usedShards.add(location.getKey().split("/")[1]);
+        }
+
+        assertEquals(Set.of("bucket-a", "bucket-b", "bucket-c"), usedBuckets);
+        assertEquals(16, usedShards.size());
+    }
+
+    @Test
+    void legacyKeysMatchPreShardingUploads() {
+        S3KeyLayoutService layout = layout(16, "bucket-a", "bucket-b");
+
+        assertEquals(List.of("images/photo.png"), keys(layout.resolveLegacy("photo.png")));
+        assertEquals(List.of("misc/notes.txt"), keys(layout.resolveLegacy("notes.txt")));
+        assertEquals(List.of("videos/movie.mp4", "misc/movie.mp4"), keys(layout.resolveLegacy("movie.mp4")));
+        assertEquals(List.of("musics/song.ogg", "misc/song.ogg"), keys(layout.resolveLegacy("song.ogg")));
+        layout.resolveLegacy("movie.mp4").forEach(location -> assertEquals("bucket-a", location.getBucketName()));
+    }
+
+    @Test
+    void resolveAllCoversEveryCandidate() {
+        S3KeyLayoutService layout = layout(16, "bucket-a", "bucket-b");
+        S3ObjectLocation resolved = layout.resolve("movie.mp4");
+
+        List<S3ObjectLocation> locations = layout.resolveAll("movie.mp4");
+
+        assertEquals(resolved, locations.get(0));
+        assertTrue(locations.contains(new S3ObjectLocation("bucket-a", resolved.getKey(), Region.AP_NORTHEAST_1)));
+        assertTrue(locations.contains(new S3ObjectLocation("bucket-b", resolved.getKey(), Region.AP_NORTHEAST_1)));
+        assertTrue(locations.contains(new S3ObjectLocation("bucket-a", "videos/movie.mp4", Region.AP_NORTHEAST_1)));
+        assertTrue(locations.contains(new S3ObjectLocation("bucket-a", "misc/movie.mp4", Region.AP_NORTHEAST_1)));
+        assertEquals(4, locations.size());
+    }
+
+    @Test
+    void fullKeyIsUsedAsIs() {
+        S3KeyLayoutService layout = layout(16, "bucket-a", "bucket-b");
+
+        assertEquals(List.of("images/photo.png", "images/photo.png"), keys(layout.resolveAll("images/photo.png")));
+    }
+
+    private List<String> keys(List<S3ObjectLocation> locations) {
+        return locations.stream().map(S3ObjectLocation::getKey).toList();
+    }
+}